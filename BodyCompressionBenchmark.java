@@ -0,0 +1,150 @@
+package uk.ac.wlv.blogclient.data.dev;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import uk.ac.wlv.blogclient.data.repo.PostBodyCodec;
+
+/**
+ * Measures what PostBodyCodec saves and costs. Size counts every column the format
+ * writes (body, packed and preview) against the plain UTF-8 body. Latency times the
+ * whole path from String to bound column values and back, including the UTF-8
+ * conversion SQLite does for TEXT columns, against that conversion alone. Plain rows
+ * carry no preview column; their preview is a substr() of the body. Not included:
+ * the PostSearchIndex insert and its index size; for end-to-end numbers
+ * run PostStressHarness against the store before and after.
+ *
+ * The synthetic corpus is built from PostDataGenerator's small vocabulary and
+ * compresses far better than real posts, so treat its savings as an upper bound.
+ * Pass a UTF-8 text file (articles, a book, exported posts) as the second argument
+ * to also measure natural prose cut to the same body length distribution.
+ */
+public class BodyCompressionBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int bodies = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        String prose = args.length > 1 ? new String(Files.readAllBytes(Paths.get(args[1])), UTF_8) : null;
+        System.out.print(run(bodies, 42L, prose));
+    }
+
+    public static String run(int bodies, long seed, String prose) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-19s %7s %11s %11s %7s %6s %9s %9s %9s %9s%n",
+                "corpus", "bodies", "plainKB", "storedKB", "saved", "packd",
+                "enc p50us", "enc p99us", "dec p50us", "dec p99us"));
+
+        for (PostDataGenerator.BodyLength profile : PostDataGenerator.BodyLength.values()) {
+            measure(sb, "synthetic/" + profile, synthetic(profile, bodies, seed));
+            if (prose != null) {
+                measure(sb, "prose/" + profile, prose(prose, profile, bodies, seed));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void measure(StringBuilder sb, String name, String[] corpus) {
+        // Warm up both paths so the JIT doesn't land in the first corpus's numbers
+        for (int i = 0; i < Math.min(2_000, corpus.length); i++) {
+            PostBodyCodec.Stored s = bind(corpus[i]);
+            read(s, corpus[i].getBytes(UTF_8));
+            new String(corpus[i].getBytes(UTF_8), UTF_8);
+        }
+
+        long plainBytes = 0, storedBytes = 0;
+        int packed = 0;
+        long[] enc = new long[corpus.length];
+        long[] dec = new long[corpus.length];
+        long[] plainEnc = new long[corpus.length];
+        long[] plainDec = new long[corpus.length];
+
+        for (int i = 0; i < corpus.length; i++) {
+            long t0 = System.nanoTime();
+            byte[] raw = corpus[i].getBytes(UTF_8);
+            long t1 = System.nanoTime();
+            String back = new String(raw, UTF_8);
+            long t2 = System.nanoTime();
+            PostBodyCodec.Stored stored = bind(corpus[i]);
+            long t3 = System.nanoTime();
+            String decoded = read(stored, raw);
+            long t4 = System.nanoTime();
+
+            if (!decoded.equals(back)) {
+                throw new IllegalStateException("Round trip mismatch at body " + i + " of " + name);
+            }
+
+            plainEnc[i] = t1 - t0;
+            plainDec[i] = t2 - t1;
+            enc[i] = t3 - t2;
+            dec[i] = t4 - t3;
+            plainBytes += raw.length;
+            storedBytes += stored.storedBytes();
+            if (stored.isCompressed()) packed++;
+        }
+
+        sb.append(String.format(Locale.ROOT, "%-19s %7d %11.1f %11.1f %6.1f%% %5.1f%% %9.1f %9.1f %9.1f %9.1f%n",
+                name, corpus.length, plainBytes / 1024.0, storedBytes / 1024.0,
+                100.0 * (plainBytes - storedBytes) / plainBytes,
+                100.0 * packed / corpus.length,
+                pct(enc, 50), pct(enc, 99), pct(dec, 50), pct(dec, 99)));
+        sb.append(String.format(Locale.ROOT, "%-19s %7s %11s %11s %7s %6s %9.1f %9.1f %9.1f %9.1f%n",
+                "  plain", "", "", "", "", "",
+                pct(plainEnc, 50), pct(plainEnc, 99), pct(plainDec, 50), pct(plainDec, 99)));
+    }
+
+    // Codec encode plus the UTF-8 conversion SQLite does when binding the TEXT columns
+    private static PostBodyCodec.Stored bind(String body) {
+        PostBodyCodec.Stored s = PostBodyCodec.encode(body);
+        sink += s.body != null ? s.body.getBytes(UTF_8).length : s.preview.getBytes(UTF_8).length;
+        return s;
+    }
+
+    // Full body read: plain rows come back from the cursor as UTF-8 first
+    private static String read(PostBodyCodec.Stored s, byte[] plainColumn) {
+        if (s.packed != null) return PostBodyCodec.decode(null, s.packed);
+        return PostBodyCodec.decode(new String(plainColumn, UTF_8), null);
+    }
+
+    // Keeps the JIT from dropping the bind conversion
+    private static long sink;
+
+    private static String[] synthetic(PostDataGenerator.BodyLength profile, int bodies, long seed) {
+        Random rnd = new Random(seed);
+        String[] out = new String[bodies];
+        for (int i = 0; i < bodies; i++) {
+            out[i] = PostDataGenerator.text(rnd, PostDataGenerator.bodyLengthFor(profile, rnd));
+        }
+        return out;
+    }
+
+    // Random slices of the text, each with a length from the profile (capped at the
+    // text's size), starting on a word boundary where possible
+    private static String[] prose(String text, PostDataGenerator.BodyLength profile, int bodies, long seed) {
+        Random rnd = new Random(seed);
+        String[] out = new String[bodies];
+        for (int i = 0; i < bodies; i++) {
+            int len = Math.min(text.length(), PostDataGenerator.bodyLengthFor(profile, rnd));
+            int start = rnd.nextInt(text.length() - len + 1);
+
+            int space = text.indexOf(' ', start);
+            if (space >= 0 && space - start < 40 && space + 1 + len <= text.length()) start = space + 1;
+            int end = start + len;
+            if (end > start && end < text.length() && Character.isLowSurrogate(text.charAt(end))) end--;
+
+            out[i] = text.substring(start, end).trim();
+        }
+        return out;
+    }
+
+    private static double pct(long[] nanos, double p) {
+        long[] s = nanos.clone();
+        Arrays.sort(s);
+        int i = (int) Math.ceil(p / 100.0 * s.length) - 1;
+        return s[Math.max(0, Math.min(s.length - 1, i))] / 1e3;
+    }
+}
@@ -0,0 +1,187 @@
+package uk.ac.wlv.blogclient.data.repo;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Proposed on-disk format for Post.body. Not wired in yet: the entity, DAO and
+ * migration it needs live with PostRepository, so nothing on disk changes until
+ * PostRepository's insert/update/get/delete paths call this and PostSearchIndex.
+ *
+ * Small bodies (and bodies compression doesn't help) stay as plain TEXT in the
+ * existing body column, so existing rows need no migration and LIKE search keeps
+ * working on them. Large bodies are deflated into a separate BLOB column, the body
+ * column is left null and a plain-text preview column is filled so list projections
+ * never decompress. A row is compressed exactly when its packed column is non-null.
+ *
+ * Search over compressed bodies goes through PostSearchIndex, which indexes the full
+ * text when the row is written. Open decision: that index matches whole words and
+ * word prefixes, while LIKE also matches fragments inside a word, so a query like
+ * "orning" finds "morning" in plain bodies but only in the title or preview of
+ * compressed ones. The index also costs roughly a third of the indexed text on
+ * disk, which eats into the saving. Settle both before the format ships.
+ */
+public final class PostBodyCodec {
+
+    // Below this many UTF-8 bytes the deflate header and CPU are not worth it
+    public static final int INLINE_MAX_BYTES = 1024;
+
+    // Upper bound on a decoded body; anything larger in a header is corrupt
+    public static final int MAX_BODY_BYTES = 8 * 1024 * 1024;
+
+    // Enough for the two-line preview in item_post.xml
+    public static final int PREVIEW_CHARS = 200;
+
+    // Compressed form (with its preview) must be at least this much smaller, otherwise keep it plain
+    private static final double MIN_SAVING = 0.10;
+
+    // Best case for deflate is a bit over 1000:1
+    private static final int MAX_DEFLATE_RATIO = 1100;
+
+    private static final int HEADER_BYTES = 4;
+
+    private PostBodyCodec() {}
+
+    /**
+     * Column values for one body. Plain rows set only {@code body}; compressed rows
+     * set {@code packed} and {@code preview} and leave {@code body} null.
+     */
+    public static final class Stored {
+        public final String body;
+        public final byte[] packed;
+        public final String preview;
+
+        Stored(String body, byte[] packed, String preview) {
+            this.body = body;
+            this.packed = packed;
+            this.preview = preview;
+        }
+
+        public boolean isCompressed() {
+            return packed != null;
+        }
+
+        /** Bytes this body takes across the body, packed and preview columns. */
+        public int storedBytes() {
+            if (packed == null) return utf8Length(body);
+            return packed.length + utf8Length(preview);
+        }
+    }
+
+    public static Stored encode(String body) {
+        String text = body == null ? "" : body;
+        if (text.length() <= INLINE_MAX_BYTES / 3) {
+            // Can't exceed the threshold even at 3 UTF-8 bytes per char, skip the encode
+            return new Stored(text, null, null);
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length > INLINE_MAX_BYTES && raw.length <= MAX_BODY_BYTES) {
+            byte[] packed = deflate(raw);
+            String preview = preview(text);
+            if (packed.length + utf8Length(preview) <= raw.length * (1.0 - MIN_SAVING)) {
+                return new Stored(null, packed, preview);
+            }
+        }
+        return new Stored(text, null, null);
+    }
+
+    /**
+     * Reads a row back; rows written before compression have a null packed column.
+     * Throws IllegalArgumentException if the packed column is corrupt.
+     */
+    public static String decode(String body, byte[] packed) {
+        if (packed == null) return body == null ? "" : body;
+        return new String(inflate(packed), StandardCharsets.UTF_8);
+    }
+
+    /** First {@link #PREVIEW_CHARS} characters, cut back to a word boundary. */
+    public static String preview(String body) {
+        if (body == null) return "";
+        if (body.length() <= PREVIEW_CHARS) return body;
+
+        int end = PREVIEW_CHARS;
+        int space = body.lastIndexOf(' ', end);
+        if (space > PREVIEW_CHARS / 2) end = space;
+        // Don't split a surrogate pair
+        if (Character.isHighSurrogate(body.charAt(end - 1))) end--;
+        return body.substring(0, end);
+    }
+
+    private static int utf8Length(String s) {
+        return s == null ? 0 : s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // ---------- DEFLATE ----------
+    // [original length, 4 bytes big-endian][zlib stream, Adler-32 checked on read]
+
+    private static byte[] deflate(byte[] raw) {
+        // BEST_SPEED keeps most of the saving at a fraction of the default level's write cost
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            out.write(raw.length >>> 24);
+            out.write(raw.length >>> 16);
+            out.write(raw.length >>> 8);
+            out.write(raw.length);
+
+            byte[] buf = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] packed) {
+        if (packed.length <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Truncated compressed body");
+        }
+        int length = ((packed[0] & 0xff) << 24)
+                | ((packed[1] & 0xff) << 16)
+                | ((packed[2] & 0xff) << 8)
+                | (packed[3] & 0xff);
+
+        // Only bodies above the inline threshold are ever packed; also rejects negatives
+        if (length <= INLINE_MAX_BYTES || length > MAX_BODY_BYTES
+                || length / MAX_DEFLATE_RATIO > packed.length) {
+            throw new IllegalArgumentException("Bad compressed body length: " + length);
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(packed, HEADER_BYTES, packed.length - HEADER_BYTES);
+
+            byte[] raw = new byte[length];
+            int off = 0;
+            while (off < length) {
+                int n = inflater.inflate(raw, off, length - off);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) break;
+                off += n;
+            }
+            // The end of the stream (and its checksum) may still be pending once the
+            // buffer is full; any further output means it's longer than the header says
+            if (off == length && !inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+                throw new IllegalArgumentException("Corrupt compressed body");
+            }
+            // finished() is only reached once the Adler-32 trailer has been verified
+            if (off != length || !inflater.finished() || inflater.getRemaining() > 0) {
+                throw new IllegalArgumentException("Corrupt compressed body");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
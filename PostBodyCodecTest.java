@@ -0,0 +1,234 @@
+package uk.ac.wlv.blogclient.data.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+public class PostBodyCodecTest {
+
+    private static final String WORDS =
+            "Went to the market this morning and bought bread, cheese and far too many apples. ";
+
+    private static String prose(int chars) {
+        StringBuilder sb = new StringBuilder(chars + WORDS.length());
+        Random rnd = new Random(chars);
+        while (sb.length() < chars) {
+            sb.append(WORDS, rnd.nextInt(20), WORDS.length()).append(rnd.nextInt(1000)).append(' ');
+        }
+        return sb.substring(0, chars);
+    }
+
+    private static String roundTrip(String body) {
+        PostBodyCodec.Stored s = PostBodyCodec.encode(body);
+        return PostBodyCodec.decode(s.body, s.packed);
+    }
+
+    private static void assertRejected(byte[] packed) {
+        try {
+            PostBodyCodec.decode(null, packed);
+            fail("decoded a corrupt body");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+
+    // Corruption must either be rejected or, e.g. for unused padding bits, change nothing
+    private static void assertNeverWrong(byte[] packed, String original) {
+        try {
+            assertEquals(original, PostBodyCodec.decode(null, packed));
+        } catch (IllegalArgumentException expected) {
+            assertNotNull(expected.getMessage());
+        }
+    }
+
+    private static byte[] withLength(byte[] packed, int length) {
+        byte[] b = packed.clone();
+        b[0] = (byte) (length >>> 24);
+        b[1] = (byte) (length >>> 16);
+        b[2] = (byte) (length >>> 8);
+        b[3] = (byte) length;
+        return b;
+    }
+
+    private static byte[] packedProse() {
+        PostBodyCodec.Stored s = PostBodyCodec.encode(prose(5000));
+        assertTrue(s.isCompressed());
+        return s.packed;
+    }
+
+    @Test
+    public void nullAndEmptyStayPlain() {
+        assertEquals("", roundTrip(null));
+        assertEquals("", roundTrip(""));
+        assertFalse(PostBodyCodec.encode("").isCompressed());
+    }
+
+    @Test
+    public void legacyTextRowsDecodeUnchanged() {
+        assertEquals("Hello from before compression", PostBodyCodec.decode("Hello from before compression", null));
+        assertEquals("", PostBodyCodec.decode(null, null));
+    }
+
+    @Test
+    public void shortcutThresholdStaysPlain() {
+        // 341 chars of 3-byte UTF-8 is 1023 bytes, just under INLINE_MAX_BYTES
+        String body = repeat("€", PostBodyCodec.INLINE_MAX_BYTES / 3);
+        PostBodyCodec.Stored s = PostBodyCodec.encode(body);
+
+        assertFalse(s.isCompressed());
+        assertEquals(body, s.body);
+        assertEquals(body, roundTrip(body));
+
+        String longer = body + "€";
+        assertEquals(longer, roundTrip(longer));
+    }
+
+    @Test
+    public void inlineByteThreshold() {
+        String atLimit = prose(PostBodyCodec.INLINE_MAX_BYTES);
+        PostBodyCodec.Stored s = PostBodyCodec.encode(atLimit);
+        assertFalse(s.isCompressed());
+        assertEquals(atLimit, s.body);
+        assertNull(s.preview);
+
+        String overLimit = prose(PostBodyCodec.INLINE_MAX_BYTES + 1);
+        assertEquals(overLimit, roundTrip(overLimit));
+    }
+
+    @Test
+    public void largeBodiesAreCompressedWithPreview() {
+        String body = prose(20_000);
+        PostBodyCodec.Stored s = PostBodyCodec.encode(body);
+
+        assertTrue(s.isCompressed());
+        assertNull(s.body);
+        assertEquals(PostBodyCodec.preview(body), s.preview);
+        assertTrue(s.storedBytes() < body.length());
+        assertEquals(body, PostBodyCodec.decode(s.body, s.packed));
+    }
+
+    @Test
+    public void incompressibleBodiesStayPlain() {
+        Random rnd = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1100; i++) sb.append((char) ('!' + rnd.nextInt(90)));
+
+        PostBodyCodec.Stored s = PostBodyCodec.encode(sb.toString());
+        assertFalse(s.isCompressed());
+        assertEquals(sb.toString(), s.body);
+    }
+
+    @Test
+    public void fourByteCharactersRoundTrip() {
+        String body = repeat("Trip 😀🌍 ", 600);
+        PostBodyCodec.Stored s = PostBodyCodec.encode(body);
+
+        assertTrue(s.isCompressed());
+        assertEquals(body, roundTrip(body));
+    }
+
+    @Test
+    public void previewCutsAtWordBoundary() {
+        String body = prose(1000);
+        String preview = PostBodyCodec.preview(body);
+
+        assertTrue(preview.length() <= PostBodyCodec.PREVIEW_CHARS);
+        assertTrue(body.startsWith(preview));
+        assertEquals(' ', body.charAt(preview.length()));
+        assertEquals("short", PostBodyCodec.preview("short"));
+        assertEquals("", PostBodyCodec.preview(null));
+    }
+
+    @Test
+    public void previewDoesNotSplitSurrogatePair() {
+        // No spaces, and an emoji straddling the cut point
+        String body = repeat("a", PostBodyCodec.PREVIEW_CHARS - 1) + "😀" + repeat("b", 50);
+        String preview = PostBodyCodec.preview(body);
+
+        assertEquals(PostBodyCodec.PREVIEW_CHARS - 1, preview.length());
+        assertFalse(Character.isHighSurrogate(preview.charAt(preview.length() - 1)));
+    }
+
+    @Test
+    public void rejectsTruncatedBlobs() {
+        byte[] packed = packedProse();
+        assertRejected(new byte[]{0, 0, 8});
+        assertRejected(Arrays.copyOf(packed, 4));
+        assertRejected(Arrays.copyOf(packed, packed.length / 2));
+        assertRejected(Arrays.copyOf(packed, packed.length - 1));
+    }
+
+    @Test
+    public void rejectsTrailingBytes() {
+        byte[] packed = packedProse();
+        assertRejected(Arrays.copyOf(packed, packed.length + 3));
+    }
+
+    @Test
+    public void rejectsBadLengths() {
+        byte[] packed = packedProse();
+        assertRejected(withLength(packed, -1));
+        assertRejected(withLength(packed, Integer.MAX_VALUE));
+        assertRejected(withLength(packed, PostBodyCodec.MAX_BODY_BYTES + 1));
+        assertRejected(withLength(packed, PostBodyCodec.INLINE_MAX_BYTES));
+        assertRejected(withLength(packed, 4999));
+        assertRejected(withLength(packed, 5001));
+    }
+
+    @Test
+    public void bitFlipsNeverDecodeToWrongText() {
+        byte[] packed = packedProse();
+        String original = prose(5000);
+        for (int i = 4; i < packed.length; i++) {
+            for (int bit = 0; bit < 8; bit++) {
+                byte[] b = packed.clone();
+                b[i] ^= (byte) (1 << bit);
+                assertNeverWrong(b, original);
+            }
+        }
+    }
+
+    @Test
+    public void byteCorruptionNeverDecodesToWrongText() {
+        byte[] packed = packedProse();
+        String original = prose(5000);
+        Random rnd = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            byte[] b = packed.clone();
+            b[4 + rnd.nextInt(b.length - 4)] = (byte) rnd.nextInt(256);
+            assertNeverWrong(b, original);
+        }
+    }
+
+    @Test
+    public void rejectsCorruptedChecksum() {
+        byte[] packed = packedProse();
+        packed[packed.length - 1] ^= 1;
+        assertRejected(packed);
+    }
+
+    @Test
+    public void encodedBlobIsUtf8Length() {
+        String body = prose(3000);
+        byte[] packed = PostBodyCodec.encode(body).packed;
+        int length = ((packed[0] & 0xff) << 24) | ((packed[1] & 0xff) << 16)
+                | ((packed[2] & 0xff) << 8) | (packed[3] & 0xff);
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, length);
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder sb = new StringBuilder(s.length() * times);
+        for (int i = 0; i < times; i++) sb.append(s);
+        return sb.toString();
+    }
+}
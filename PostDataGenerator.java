@@ -0,0 +1,205 @@
+package uk.ac.wlv.blogclient.data.dev;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import uk.ac.wlv.blogclient.data.model.Post;
+import uk.ac.wlv.blogclient.data.repo.PostRepository;
+
+/**
+ * Bulk-populates the local store with synthetic posts so field-sized datasets
+ * can be reproduced on a test device or in an instrumentation run.
+ */
+public class PostDataGenerator {
+
+    public static final int MAX_COUNT = 1_000_000;
+
+    // Body length profiles (characters). Lengths are log-normal around the median,
+    // clamped to [min, max], so each profile has a realistic long tail.
+    public enum BodyLength {
+        SHORT(40, 200, 1_000),
+        MIXED(80, 800, 20_000),
+        LONG_FORM(1_000, 6_000, 100_000);
+
+        final int min, median, max;
+
+        BodyLength(int min, int median, int max) {
+            this.min = min;
+            this.median = median;
+            this.max = max;
+        }
+    }
+
+    public interface ProgressListener {
+        void onProgress(int inserted, int total);
+    }
+
+    static final String[] WORDS = {
+            "android", "blog", "post", "travel", "coffee", "review", "morning", "city",
+            "update", "photo", "weekend", "project", "notes", "music", "garden", "recipe",
+            "football", "study", "exam", "library", "holiday", "train", "camera", "sunset",
+            "the", "a", "and", "of", "to", "in", "with", "on", "for", "today", "was", "is"
+    };
+
+    private final PostRepository repo;
+
+    private int count = 1_000;
+    private BodyLength bodyLength = BodyLength.MIXED;
+    private double imageRatio = 0.3;
+    private double uploadedRatio = 0.2;
+    private int batchSize = 500;
+    private long seed = 42L;
+    private ProgressListener listener;
+
+    private long minId = -1, maxId = -1;
+
+    public PostDataGenerator(PostRepository repo) {
+        this.repo = repo;
+    }
+
+    public PostDataGenerator count(int count) {
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IllegalArgumentException("count must be 0.." + MAX_COUNT);
+        }
+        this.count = count;
+        return this;
+    }
+
+    public PostDataGenerator bodyLength(BodyLength bodyLength) {
+        this.bodyLength = bodyLength;
+        return this;
+    }
+
+    public PostDataGenerator imageRatio(double imageRatio) {
+        this.imageRatio = clampRatio(imageRatio);
+        return this;
+    }
+
+    public PostDataGenerator uploadedRatio(double uploadedRatio) {
+        this.uploadedRatio = clampRatio(uploadedRatio);
+        return this;
+    }
+
+    public PostDataGenerator batchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+        return this;
+    }
+
+    public PostDataGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public PostDataGenerator progress(ProgressListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Inserts the configured number of posts. Inserts are submitted a batch at a
+     * time and awaited before the next batch, so memory stays bounded at 1M posts.
+     * Returns the elapsed time in milliseconds; the inserted id range is then
+     * available from {@link #minId()} / {@link #maxId()}.
+     */
+    public long run() throws ExecutionException, InterruptedException {
+        Random rnd = new Random(seed);
+        long start = System.currentTimeMillis();
+        long now = start;
+        minId = -1;
+        maxId = -1;
+
+        List<Future<Long>> pending = new ArrayList<>(batchSize);
+        for (int i = 0; i < count; i++) {
+            pending.add(repo.insert(newPost(rnd, i, now)));
+
+            if (pending.size() == batchSize || i == count - 1) {
+                for (Future<Long> f : pending) {
+                    long id = f.get();
+                    minId = minId < 0 ? id : Math.min(minId, id);
+                    maxId = Math.max(maxId, id);
+                }
+                pending.clear();
+                if (listener != null) listener.onProgress(i + 1, count);
+            }
+        }
+
+        return System.currentTimeMillis() - start;
+    }
+
+    /** Smallest id inserted by the last {@link #run()}, or -1 before the first run. */
+    public long minId() {
+        return minId;
+    }
+
+    /** Largest id inserted by the last {@link #run()}, or -1 before the first run. */
+    public long maxId() {
+        return maxId;
+    }
+
+    Post newPost(Random rnd, int index, long now) {
+        // Spread timestamps over the past year so ordering/paging looks realistic
+        long created = now - (long) (rnd.nextDouble() * 365L * 24 * 60 * 60 * 1000);
+        long updated = Math.min(now, created + (rnd.nextInt(4) == 0 ? rnd.nextInt(7 * 24 * 60 * 60) * 1000L : 0));
+
+        boolean uploaded = rnd.nextDouble() < uploadedRatio;
+
+        return new Post(
+                title(rnd, index),
+                newBody(rnd),
+                rnd.nextDouble() < imageRatio
+                        ? "content://media/external/images/media/" + (100_000 + index)
+                        : null,
+                created,
+                updated,
+                uploaded,
+                uploaded ? "synthetic-" + index : null
+        );
+    }
+
+    String newBody(Random rnd) {
+        return text(rnd, bodyLengthFor(bodyLength, rnd));
+    }
+
+    static int bodyLengthFor(BodyLength profile, Random rnd) {
+        // sigma = 1 gives roughly 5% of bodies above ~5x the median
+        double len = profile.median * Math.exp(rnd.nextGaussian());
+        return (int) Math.max(profile.min, Math.min(profile.max, len));
+    }
+
+    private static String title(Random rnd, int index) {
+        // ~5% of posts have no title, like posts saved from the Add dialog
+        if (rnd.nextInt(20) == 0) return "";
+        return capitalise(text(rnd, 12 + rnd.nextInt(40))) + " #" + index;
+    }
+
+    static String text(Random rnd, int length) {
+        StringBuilder sb = new StringBuilder(length + 16);
+        int sentence = 0;
+        while (sb.length() < length) {
+            String w = WORDS[rnd.nextInt(WORDS.length)];
+            sb.append(sentence == 0 ? capitalise(w) : w);
+            sentence++;
+
+            if (sentence > 6 && rnd.nextInt(6) == 0) {
+                sb.append(rnd.nextInt(8) == 0 ? ".\n\n" : ". ");
+                sentence = 0;
+            } else {
+                sb.append(' ');
+            }
+        }
+        sb.setLength(length);
+        return sb.toString().trim();
+    }
+
+    private static String capitalise(String s) {
+        if (s.isEmpty()) return s;
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    private static double clampRatio(double r) {
+        return Math.max(0.0, Math.min(1.0, r));
+    }
+}
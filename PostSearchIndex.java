@@ -0,0 +1,76 @@
+package uk.ac.wlv.blogclient.data.repo;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Full-text index over the bodies PostBodyCodec compresses, so search keeps finding
+ * words anywhere in a long body without decompressing rows. Plain bodies are not
+ * indexed; LIKE on the body column still covers them.
+ *
+ * The FTS4 table is external-content over a scratch table that is empty at rest, so
+ * the index doesn't keep a second uncompressed copy of the text. FTS4 can't delete
+ * from a contentless table, and an external-content delete reads the old text from
+ * the content table, so {@link #remove} stages the old body there for the length of
+ * the delete. Call these inside the same transaction as the row write.
+ */
+public final class PostSearchIndex {
+
+    static final String FTS_TABLE = "post_fts";
+    static final String SOURCE_TABLE = "post_fts_src";
+
+    /** Ids of compressed posts matching {@link #matchQuery}; bind the query as the only arg. */
+    public static final String MATCH_IDS =
+            "SELECT docid FROM " + FTS_TABLE + " WHERE " + FTS_TABLE + " MATCH ?";
+
+    private PostSearchIndex() {}
+
+    /** For the database's onCreate callback and the migration that adds the packed column. */
+    public static void create(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + SOURCE_TABLE
+                + " (docid INTEGER PRIMARY KEY, body TEXT)");
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + FTS_TABLE
+                + " USING fts4(content=\"" + SOURCE_TABLE + "\", body, tokenize=unicode61)");
+    }
+
+    /** After inserting or updating a row whose new body was stored compressed. */
+    public static void add(SupportSQLiteDatabase db, long postId, String body) {
+        db.execSQL("INSERT INTO " + FTS_TABLE + " (docid, body) VALUES (?, ?)",
+                new Object[]{postId, body});
+    }
+
+    /**
+     * Before updating or deleting a row whose old body was stored compressed.
+     * {@code oldBody} must be the decoded text that was passed to {@link #add}.
+     */
+    public static void remove(SupportSQLiteDatabase db, long postId, String oldBody) {
+        db.execSQL("INSERT INTO " + SOURCE_TABLE + " (docid, body) VALUES (?, ?)",
+                new Object[]{postId, oldBody});
+        db.execSQL("DELETE FROM " + FTS_TABLE + " WHERE docid = ?", new Object[]{postId});
+        db.execSQL("DELETE FROM " + SOURCE_TABLE + " WHERE docid = ?", new Object[]{postId});
+    }
+
+    /**
+     * Turns a search box query into an FTS phrase, last word as a prefix, so "long wa"
+     * behaves like LIKE '%long wa%' at word boundaries. Returns null when the query
+     * has no words, in which case the FTS clause should be left out.
+     */
+    public static String matchQuery(String query) {
+        if (query == null) return null;
+
+        StringBuilder sb = new StringBuilder();
+        int i = 0, n = query.length();
+        while (i < n) {
+            int cp = query.codePointAt(i);
+            if (Character.isLetterOrDigit(cp)) {
+                sb.appendCodePoint(cp);
+            } else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+                sb.append(' ');
+            }
+            i += Character.charCount(cp);
+        }
+
+        String words = sb.toString().trim();
+        if (words.isEmpty()) return null;
+        return "\"" + words + "*\"";
+    }
+}
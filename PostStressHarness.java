@@ -0,0 +1,372 @@
+package uk.ac.wlv.blogclient.data.dev;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import uk.ac.wlv.blogclient.data.model.Post;
+import uk.ac.wlv.blogclient.data.repo.PostRepository;
+
+/**
+ * Runs a concurrent mixed workload against PostRepository and reports throughput,
+ * tail latency and lock contention per operation. Only depends on the repository,
+ * so it can be driven from an instrumentation test or any JVM main that can build one.
+ *
+ * Contention is reported two ways: the number of operations that failed with a
+ * SQLite "locked"/"busy" error, and the slowdown of each operation's mean latency
+ * versus a single-threaded calibration pass over the same mix.
+ */
+public class PostStressHarness {
+
+    public enum Op { GET, LIST, SEARCH, INSERT, UPDATE, DELETE }
+
+    // Above this many ids LIST (a full getAll) is dropped from the default mix;
+    // it can still be forced back in with weight(Op.LIST, n)
+    public static final long LIST_MAX_ROWS = 10_000;
+
+    private final PostRepository repo;
+    private final PostDataGenerator generator;
+
+    private final Map<Op, Integer> weights = new EnumMap<>(Op.class);
+    private boolean listWeightSet;
+    private int threads = 4;
+    private long durationMs = 30_000;
+    private long calibrationMs = 3_000;
+    private long seed = 7L;
+    private long minId = -1, maxId = -1;
+    private final AtomicLong maxInsertedId = new AtomicLong(-1);
+
+    /**
+     * INSERT and UPDATE draw posts and bodies from {@code generator}, so pass the one
+     * used to seed the store to keep writes in the same body length profile.
+     */
+    public PostStressHarness(PostRepository repo, PostDataGenerator generator) {
+        this.repo = repo;
+        this.generator = generator;
+
+        // Read-heavy by default, roughly what the UI does: open, scroll, search, edit
+        weights.put(Op.GET, 50);
+        weights.put(Op.LIST, 2);
+        weights.put(Op.SEARCH, 15);
+        weights.put(Op.INSERT, 15);
+        weights.put(Op.UPDATE, 10);
+        weights.put(Op.DELETE, 8);
+    }
+
+    public PostStressHarness threads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    public PostStressHarness durationMs(long durationMs) {
+        this.durationMs = durationMs;
+        return this;
+    }
+
+    /** 0 skips calibration; contention factors are then not reported. */
+    public PostStressHarness calibrationMs(long calibrationMs) {
+        this.calibrationMs = Math.max(0, calibrationMs);
+        return this;
+    }
+
+    public PostStressHarness weight(Op op, int weight) {
+        weights.put(op, Math.max(0, weight));
+        if (op == Op.LIST) listWeightSet = true;
+        return this;
+    }
+
+    public PostStressHarness seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Ids to target for GET/UPDATE/DELETE. Defaults to the range the generator
+     * inserted on its last run; needed when the store was seeded some other way.
+     */
+    public PostStressHarness idRange(long minId, long maxId) {
+        this.minId = minId;
+        this.maxId = maxId;
+        return this;
+    }
+
+    /** Highest id created by INSERT operations so far, or -1; for cleaning up after a run. */
+    public long maxInsertedId() {
+        return maxInsertedId.get();
+    }
+
+    public Report run() throws ExecutionException, InterruptedException {
+        if (minId < 0 || maxId < minId) {
+            // Never fall back to getAll(): at 1M posts that loads every body into memory
+            if (generator.minId() < 0) {
+                throw new IllegalStateException("No id range: run the generator first or set idRange()");
+            }
+            minId = generator.minId();
+            maxId = generator.maxId();
+        }
+
+        Map<Op, Integer> mix = new EnumMap<>(weights);
+        if (!listWeightSet && maxId - minId + 1 > LIST_MAX_ROWS) {
+            mix.put(Op.LIST, 0);
+        }
+
+        Set<Long> deleted = ConcurrentHashMap.newKeySet();
+
+        Recorder baseline = null;
+        if (calibrationMs > 0) {
+            baseline = new Recorder();
+            worker(baseline, mix, new Random(seed - 1), calibrationMs, deleted, 0).run();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Recorder> recorders = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        long elapsedNs;
+
+        try {
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                Recorder r = new Recorder();
+                recorders.add(r);
+                futures.add(pool.submit(worker(r, mix, new Random(seed + t), durationMs, deleted, t + 1)));
+            }
+            for (Future<?> f : futures) f.get();
+            elapsedNs = System.nanoTime() - start;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new Report(threads, elapsedNs, Recorder.merge(recorders), baseline);
+    }
+
+    private Runnable worker(Recorder rec, Map<Op, Integer> mix, Random rnd, long runMs,
+                            Set<Long> deleted, int threadNo) {
+        return () -> {
+            long deadline = System.nanoTime() + runMs * 1_000_000L;
+            int totalWeight = 0;
+            for (int w : mix.values()) totalWeight += w;
+            int inserted = 0;
+
+            while (System.nanoTime() < deadline) {
+                Op op = pick(mix, rnd, totalWeight);
+                long t0 = System.nanoTime();
+                try {
+                    switch (op) {
+                        case GET:
+                            repo.getById(randomId(rnd)).get();
+                            break;
+                        case LIST:
+                            repo.getAll().get();
+                            break;
+                        case SEARCH:
+                            repo.search(searchTerm(rnd)).get();
+                            break;
+                        case INSERT:
+                            // Index only feeds titles and fake image uris; offset past the seeded range
+                            int index = PostDataGenerator.MAX_COUNT * (threadNo + 1) + inserted++;
+                            long newId = repo.insert(generator.newPost(rnd, index, System.currentTimeMillis())).get();
+                            maxInsertedId.accumulateAndGet(newId, Math::max);
+                            break;
+                        case UPDATE:
+                            Post p = repo.getById(randomId(rnd)).get();
+                            // Already deleted: a bare read isn't an update, don't record it as one
+                            if (p == null) continue;
+                            p.body = generator.newBody(rnd);
+                            p.updatedAt = System.currentTimeMillis();
+                            repo.update(p).get();
+                            break;
+                        case DELETE:
+                            long id = randomId(rnd);
+                            if (!deleted.add(id)) continue;
+                            repo.deleteById(id).get();
+                            break;
+                    }
+                    rec.record(op, System.nanoTime() - t0);
+                } catch (ExecutionException e) {
+                    rec.fail(op, isLockError(e));
+                } catch (RuntimeException e) {
+                    // e.g. RejectedExecutionException thrown synchronously by the repository
+                    rec.fail(op, isLockError(e));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        };
+    }
+
+    private static Op pick(Map<Op, Integer> mix, Random rnd, int totalWeight) {
+        int r = rnd.nextInt(Math.max(1, totalWeight));
+        for (Map.Entry<Op, Integer> e : mix.entrySet()) {
+            r -= e.getValue();
+            if (r < 0) return e.getKey();
+        }
+        return Op.GET;
+    }
+
+    private long randomId(Random rnd) {
+        return minId + (long) (rnd.nextDouble() * (maxId - minId + 1));
+    }
+
+    /**
+     * A title token like "#48213". Generated titles end in " #index", so this matches
+     * a handful of rows instead of the whole table like common words would. Numbers
+     * are drawn from the top decade of the id span to keep them at full width.
+     */
+    private String searchTerm(Random rnd) {
+        long span = maxId - minId + 1;
+        long lo = Math.max(1, span / 10);
+        long n = span > lo ? lo + (long) (rnd.nextDouble() * (span - lo)) : lo;
+        return "#" + n;
+    }
+
+    private static boolean isLockError(Throwable t) {
+        // SQLiteDatabaseLockedException / SQLITE_BUSY, matched by name so this
+        // class has no android.database dependency
+        for (Throwable c = t; c != null; c = c.getCause()) {
+            String name = c.getClass().getSimpleName();
+            String msg = c.getMessage() == null ? "" : c.getMessage().toLowerCase(Locale.ROOT);
+            if (name.contains("Locked") || msg.contains("database is locked") || msg.contains("sqlite_busy")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---------- RECORDING ----------
+
+    static class Recorder {
+        final Map<Op, long[]> latencies = new EnumMap<>(Op.class);
+        final Map<Op, Integer> counts = new EnumMap<>(Op.class);
+        final Map<Op, Integer> errors = new EnumMap<>(Op.class);
+        final Map<Op, Integer> lockErrors = new EnumMap<>(Op.class);
+
+        void record(Op op, long nanos) {
+            int n = counts.getOrDefault(op, 0);
+            long[] arr = latencies.get(op);
+            if (arr == null) {
+                arr = new long[1024];
+            } else if (n == arr.length) {
+                arr = Arrays.copyOf(arr, n * 2);
+            }
+            arr[n] = nanos;
+            latencies.put(op, arr);
+            counts.put(op, n + 1);
+        }
+
+        void fail(Op op, boolean lock) {
+            errors.merge(op, 1, Integer::sum);
+            if (lock) lockErrors.merge(op, 1, Integer::sum);
+        }
+
+        long[] sorted(Op op) {
+            long[] arr = latencies.get(op);
+            if (arr == null) return new long[0];
+            long[] copy = Arrays.copyOf(arr, counts.get(op));
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        static Recorder merge(List<Recorder> parts) {
+            Recorder all = new Recorder();
+            for (Recorder r : parts) {
+                for (Op op : Op.values()) {
+                    long[] arr = r.latencies.get(op);
+                    int n = r.counts.getOrDefault(op, 0);
+                    for (int i = 0; i < n; i++) all.record(op, arr[i]);
+                    all.errors.merge(op, r.errors.getOrDefault(op, 0), Integer::sum);
+                    all.lockErrors.merge(op, r.lockErrors.getOrDefault(op, 0), Integer::sum);
+                }
+            }
+            return all;
+        }
+    }
+
+    // ---------- REPORT ----------
+
+    public static class Report {
+        public final int threads;
+        public final long elapsedNs;
+        private final Recorder rec;
+        private final Recorder baseline;
+
+        Report(int threads, long elapsedNs, Recorder rec, Recorder baseline) {
+            this.threads = threads;
+            this.elapsedNs = elapsedNs;
+            this.rec = rec;
+            this.baseline = baseline;
+        }
+
+        public int count(Op op) {
+            return rec.counts.getOrDefault(op, 0);
+        }
+
+        public int lockErrors(Op op) {
+            return rec.lockErrors.getOrDefault(op, 0);
+        }
+
+        public double throughput(Op op) {
+            return count(op) / (elapsedNs / 1e9);
+        }
+
+        /** Latency percentile in milliseconds, p in [0, 100]. */
+        public double percentileMs(Op op, double p) {
+            return percentile(rec.sorted(op), p) / 1e6;
+        }
+
+        /** Concurrent mean latency divided by single-threaded mean; NaN if not calibrated. */
+        public double contentionFactor(Op op) {
+            if (baseline == null) return Double.NaN;
+            double base = mean(baseline.sorted(op));
+            double now = mean(rec.sorted(op));
+            return base > 0 ? now / base : Double.NaN;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            int total = 0;
+            for (Op op : Op.values()) total += count(op);
+
+            sb.append(String.format(Locale.ROOT, "threads=%d  elapsed=%.1fs  ops=%d  throughput=%.1f ops/s%n",
+                    threads, elapsedNs / 1e9, total, total / (elapsedNs / 1e9)));
+            sb.append(String.format(Locale.ROOT, "%-7s %8s %9s %8s %8s %8s %8s %6s %6s %7s%n",
+                    "op", "count", "ops/s", "p50ms", "p95ms", "p99ms", "maxms", "err", "locked", "slowdn"));
+
+            for (Op op : Op.values()) {
+                long[] s = rec.sorted(op);
+                if (s.length == 0 && rec.errors.getOrDefault(op, 0) == 0) continue;
+                sb.append(String.format(Locale.ROOT, "%-7s %8d %9.1f %8.2f %8.2f %8.2f %8.2f %6d %6d %7.2f%n",
+                        op, s.length, throughput(op),
+                        percentile(s, 50) / 1e6, percentile(s, 95) / 1e6,
+                        percentile(s, 99) / 1e6, percentile(s, 100) / 1e6,
+                        rec.errors.getOrDefault(op, 0), lockErrors(op), contentionFactor(op)));
+            }
+            return sb.toString();
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, i))];
+        }
+
+        private static double mean(long[] values) {
+            if (values.length == 0) return 0;
+            double sum = 0;
+            for (long v : values) sum += v;
+            return sum / values.length;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package uk.ac.wlv.blogclient.data.dev;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.wlv.blogclient.data.repo.PostRepository;
+
+/**
+ * Seeds the app's store with PostDataGenerator, runs PostStressHarness against it
+ * and logs the report under the "PostStress" tag. Seeded and inserted rows are
+ * deleted afterwards unless keep=true. Settings come from instrumentation args:
+ *
+ *   ./gradlew connectedAndroidTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.class=uk.ac.wlv.blogclient.data.dev.PostStressInstrumentedTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.count=100000 \
+ *     -Pandroid.testInstrumentationRunnerArguments.profile=LONG_FORM
+ *
+ * Args: count, profile (SHORT|MIXED|LONG_FORM), imageRatio, threads, durationMs, keep.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class PostStressInstrumentedTest {
+
+    private static final String TAG = "PostStress";
+
+    @Test
+    public void seedAndStress() throws Exception {
+        Bundle args = InstrumentationRegistry.getArguments();
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        PostRepository repo = new PostRepository(context);
+
+        PostDataGenerator generator = new PostDataGenerator(repo)
+                .count(Integer.parseInt(args.getString("count", "10000")))
+                .bodyLength(PostDataGenerator.BodyLength.valueOf(args.getString("profile", "MIXED")))
+                .imageRatio(Double.parseDouble(args.getString("imageRatio", "0.3")))
+                .progress((inserted, total) -> {
+                    if (inserted % 50_000 == 0 || inserted == total) {
+                        Log.i(TAG, "seeded " + inserted + "/" + total);
+                    }
+                });
+
+        long seedMs = generator.run();
+        Log.i(TAG, "seeded ids " + generator.minId() + ".." + generator.maxId() + " in " + seedMs + "ms");
+
+        PostStressHarness harness = new PostStressHarness(repo, generator)
+                .threads(Integer.parseInt(args.getString("threads", "4")))
+                .durationMs(Long.parseLong(args.getString("durationMs", "30000")));
+        try {
+            PostStressHarness.Report report = harness.run();
+
+            for (String line : report.toString().split("\n")) {
+                Log.i(TAG, line);
+            }
+        } finally {
+            if (!Boolean.parseBoolean(args.getString("keep", "false"))) {
+                cleanUp(repo, generator.minId(), Math.max(generator.maxId(), harness.maxInsertedId()));
+            }
+        }
+    }
+
+    // Seeded ids plus anything the harness inserted above them, chunked to stay
+    // under SQLite's bound-variable limit
+    private static void cleanUp(PostRepository repo, long fromId, long toId) throws Exception {
+        if (fromId < 0) return;
+
+        List<Long> chunk = new ArrayList<>(900);
+        for (long id = fromId; id <= toId; id++) {
+            chunk.add(id);
+            if (chunk.size() == 900) {
+                repo.deleteByIds(chunk).get();
+                chunk = new ArrayList<>(900);
+            }
+        }
+        if (!chunk.isEmpty()) repo.deleteByIds(chunk).get();
+        Log.i(TAG, "deleted ids " + fromId + ".." + toId);
+    }
+}